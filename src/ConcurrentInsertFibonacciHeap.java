@@ -0,0 +1,236 @@
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConcurrentInsertFibonacciHeap
+ *
+ * A FibonacciHeap which may be inserted into by many producer threads and is consumed by a single thread.
+ * Every producer thread pushes its new nodes into its own lock-free buffer, so producers never contend with each other.
+ * Right before every consumer operation the buffers are drained - each one is turned into a small heap
+ * which is melded into the main heap, so the consumer always sees the exact minimum of everything inserted so far.
+ *
+ * Only insert() and releaseThread() may be called concurrently. All other functions must be called by the consumer thread.
+ * A buffer is unregistered once it is empty and its thread has ended or called releaseThread(), so short-lived
+ * producers and replaced pool threads don't slow the consumer down.
+ */
+public class ConcurrentInsertFibonacciHeap
+{
+	private final FibonacciHeap heap = new FibonacciHeap();
+	private final ConcurrentLinkedQueue<InsertBuffer> buffers = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<InsertBuffer> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+
+    /*
+     * Helper function for localBuffer.
+     * The function creates a new buffer for the calling producer thread and registers it for draining.
+     * Complexity O(1).
+     */
+    private InsertBuffer registerBuffer() {
+    	InsertBuffer buffer = new InsertBuffer(Thread.currentThread());
+    	this.buffers.add(buffer);
+    	return buffer;
+    }
+
+    /**
+    * public HeapNode insert(int key)
+    *
+    * Creates a node which contains the given key, and pushes it into the calling thread's buffer.
+    * The node becomes part of the heap on the next consumer operation.
+    * May be called by any thread. The added key is assumed not to already belong to the heap.
+    *
+    * Returns the newly created node.
+    * Complexity O(1).
+    */
+    public FibonacciHeap.HeapNode insert(int key)
+    {
+    	FibonacciHeap.HeapNode node = new FibonacciHeap.HeapNode(key);
+    	this.localBuffer.get().push(node);
+    	return node;
+    }
+
+    /**
+    * public void releaseThread()
+    *
+    * Releases the calling producer thread's buffer. Its pending nodes are still added to the heap on the next
+    * consumer operation, after which the buffer is unregistered. Long-lived producer threads (e.g. of a pool)
+    * should call this once they are done with the heap, since the thread otherwise keeps its buffer alive.
+    * Inserting again afterwards registers a new buffer.
+    * Complexity O(1).
+    */
+    public void releaseThread()
+    {
+    	InsertBuffer buffer = this.localBuffer.get();
+    	this.localBuffer.remove();
+    	buffer.released = true;
+    }
+
+    /*
+     * Helper function for the consumer functions.
+     * The function takes the pending nodes of every buffer, inserts them into a helper heap
+     * and melds the helper heap into the main heap. Buffers which no producer can push to anymore are unregistered.
+     * Complexity O(#buffers + #pending nodes).
+     */
+    private void drain() {
+    	Iterator<InsertBuffer> iterator = this.buffers.iterator();
+    	while (iterator.hasNext()) {
+    		InsertBuffer buffer = iterator.next();
+    		boolean abandoned = buffer.isAbandoned(); // Checked before taking the nodes, so no push can follow
+    		FibonacciHeap.HeapNode node = buffer.takeAll();
+    		if (abandoned) {
+    			iterator.remove();
+    		}
+    		if (node == null) { // Nothing was inserted by this producer since the last drain
+    			continue;
+    		}
+    		FibonacciHeap helperHeap = new FibonacciHeap();
+    		while (node != null) { // insertNode() overwrites next, so read it first
+    			FibonacciHeap.HeapNode next = node.getNext();
+    			helperHeap.insertNode(node);
+    			node = next;
+    		}
+    		this.heap.meld(helperHeap);
+    	}
+    }
+
+   /**
+    * public boolean isEmpty()
+    *
+    * Returns true if and only if the heap, including the pending insertions, is empty.
+    * Consumer only.
+    */
+    public boolean isEmpty()
+    {
+    	this.drain();
+    	return this.heap.isEmpty();
+    }
+
+   /**
+    * public int size()
+    *
+    * Returns the number of elements in the heap, including the pending insertions.
+    * Consumer only.
+    */
+    public int size()
+    {
+    	this.drain();
+    	return this.heap.size();
+    }
+
+   /**
+    * public HeapNode findMin()
+    *
+    * Returns the node whose key is minimal among all inserted nodes, or null if the heap is empty.
+    * Consumer only.
+    * Complexity O(1) plus draining the buffers.
+    */
+    public FibonacciHeap.HeapNode findMin()
+    {
+    	this.drain();
+    	return this.heap.findMin();
+    }
+
+    /**
+    * public void deleteMin()
+    *
+    * Deletes the node containing the minimum key among all inserted nodes.
+    * Consumer only.
+    * A.C. Complexity O(logn) plus draining the buffers.
+    */
+    public void deleteMin()
+    {
+    	this.drain();
+    	this.heap.deleteMin();
+    }
+
+    /**
+    * public void decreaseKey(HeapNode x, int delta)
+    *
+    * Decreases the key of the node x by a non-negative value delta. x may still be pending in a buffer.
+    * Consumer only.
+    * A.C. complexity O(1) plus draining the buffers.
+    */
+    public void decreaseKey(FibonacciHeap.HeapNode x, int delta)
+    {
+    	this.drain();
+    	this.heap.decreaseKey(x, delta);
+    }
+
+   /**
+    * public void delete(HeapNode x)
+    *
+    * Deletes the node x from the heap. x may still be pending in a buffer.
+    * Consumer only.
+    * A.C. Complexity O(logn) plus draining the buffers.
+    */
+    public void delete(FibonacciHeap.HeapNode x)
+    {
+    	this.drain();
+    	this.heap.delete(x);
+    }
+
+   /**
+    * public FibonacciHeap heap()
+    *
+    * Drains the buffers and returns the underlying heap, for read-only queries such as countersRep() or snapshot().
+    * Consumer only.
+    */
+    public FibonacciHeap heap()
+    {
+    	this.drain();
+    	return this.heap;
+    }
+
+   /**
+    * private static class InsertBuffer
+    *
+    * A lock-free stack of pending nodes, owned by a single producer thread.
+    * The nodes are chained through their next field, which is unused until the node joins a heap.
+    * The only other thread touching the stack is the consumer, which takes the whole stack at once.
+    * The owner is held weakly, so that a buffer never keeps its thread alive.
+    */
+    private static class InsertBuffer{
+
+    	private final AtomicReference<FibonacciHeap.HeapNode> head = new AtomicReference<>();
+    	private final WeakReference<Thread> owner;
+    	private volatile boolean released;
+
+    	/*
+    	 * Constructor for InsertBuffer.
+    	 * The function receives the producer thread which owns the buffer.
+    	 * Complexity O(1).
+    	 */
+    	private InsertBuffer(Thread owner) {
+    		this.owner = new WeakReference<>(owner);
+    	}
+
+    	/*
+    	 * Returns true if the owner will never push to the buffer again - it released the buffer or has ended.
+    	 * Complexity O(1).
+    	 */
+    	private boolean isAbandoned() {
+    		Thread thread = this.owner.get();
+    		return this.released || thread == null || !thread.isAlive();
+    	}
+
+    	/*
+    	 * Pushes a node on top of the stack. Only retries if the consumer took the stack in the meantime.
+    	 * Complexity O(1).
+    	 */
+    	private void push(FibonacciHeap.HeapNode node) {
+    		FibonacciHeap.HeapNode top;
+    		do {
+    			top = this.head.get();
+    			node.setNext(top);
+    		} while (!this.head.compareAndSet(top, node));
+    	}
+
+    	/*
+    	 * Removes all of the nodes from the stack and returns the top one, or null if the stack is empty.
+    	 * Complexity O(1).
+    	 */
+    	private FibonacciHeap.HeapNode takeAll() {
+    		return this.head.getAndSet(null);
+    	}
+    }
+}
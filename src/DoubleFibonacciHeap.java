@@ -0,0 +1,567 @@
+/**
+ * DoubleFibonacciHeap
+ *
+ * An implementation of a Fibonacci Heap over double keys.
+ * Follows the API of FibonacciHeap. Keys are stored as primitives - no boxing and no Comparator calls.
+ *
+ * Generated by templates/generate.sh from templates/PrimitiveFibonacciHeap.java.template - do not edit by hand.
+ */
+public class DoubleFibonacciHeap
+{
+	private HeapNode minimalRoot, firstRoot;
+	private int size, markedCount, treeCount;
+	private static int totalCuts, totalLinks;
+
+   /**
+    * public boolean isEmpty()
+    *
+    * Returns true if and only if the heap is empty.
+    * Complexity O(1).
+    */
+    public boolean isEmpty()
+    {
+    	return this.size == 0;
+    }
+
+    /* Helper function for insert().
+     * The function creates a node with the given key, and the given special child.
+     * The function inserts the node into the heap.
+     * The function returns the newly created node.
+     * Complexity O(1).
+     */
+    private HeapNode insertHelper(double key, HeapNode specialChild) {
+    	if (Double.isNaN(key)) { // NaN is not ordered, it would break the heap order
+    		throw new IllegalArgumentException("key must not be NaN");
+    	}
+    	HeapNode node = new HeapNode(key);
+    	node.setSpecialChild(specialChild);
+    	if (this.isEmpty()) { // Inserting node to an empty heap.
+    		this.firstRoot = node;
+    		this.minimalRoot = node;
+    		node.setNext(node); // Node should point to itself.
+    		node.setPrev(node);
+    	}
+    	else { // Inserting node at the start of a non-empty heap - "left side".
+    		HeapNode lastRoot = this.firstRoot.getPrev();
+    		node.setNext(this.firstRoot);
+    		node.setPrev(lastRoot);
+    		lastRoot.setNext(node);
+    		this.firstRoot.setPrev(node);
+    		this.firstRoot = node;
+    		if (this.minimalRoot.getKey() > node.getKey()) { // Updating the minimal heap-node field.
+    			this.minimalRoot = node;
+    		}
+    	}
+    	this.size++;
+    	this.treeCount++;
+    	return node;
+    }
+
+    /**
+    * public HeapNode insert(double key)
+    *
+    * Creates a node which contains the given key, and inserts it into the heap.
+    * Throws IllegalArgumentException if the key is NaN.
+    * Returns the newly created node.
+    * Complexity O(1).
+    */
+    public HeapNode insert(double key)
+    {
+    	return this.insertHelper(key, null);
+    }
+
+    /*
+     * Helper function for link()
+     * The function receives the root nodes root1 and root2, and links them.
+     * The function assumes root1.key <= root2.key.
+     * The function returns root1
+     * Complexity O(1).
+     */
+    private HeapNode linkHelper(HeapNode root1, HeapNode root2) {
+    	if (root1.getChild() == null) { // root1 is a single node with no children.
+    		root2.setNext(root2);
+    		root2.setPrev(root2);
+    	}
+    	else { // Linking two trees with at least one child.
+    		HeapNode child1 = root1.getChild();
+    		child1.getPrev().setNext(root2);
+    		root2.setPrev(child1.getPrev());
+    		child1.setPrev(root2);
+    		root2.setNext(child1);
+    	}
+    	root2.setParent(root1); // Fixing pointers of root and its new child
+    	root1.setChild(root2);
+    	root1.setRank(root1.getRank()+1);
+    	this.treeCount--;
+    	return root1;
+    }
+
+    /*
+     *  Helper function for consolidate().
+     *  The function receives two root nodes of the same rank and links them.
+     *  The function returns the root of the new linked tree.
+     *  Complexity O(1).
+     */
+    private HeapNode link(HeapNode root1, HeapNode root2) {
+    	DoubleFibonacciHeap.totalLinks++;
+    	if (root1.getKey() < root2.getKey()) { // Need to make root2 the child of root 1.
+    		return linkHelper(root1, root2);
+    	}
+    	return linkHelper(root2, root1); // Else - root1 is the child of root2.
+    }
+
+    /*
+     * Helper function for deleteMin().
+     * The function takes the heap and performs a consolidation of it, after deletion of the min. root.
+     * A.C. Complexity O(logn).
+     * W.C. Complexity O(n).
+     */
+    private void consolidate() {
+    	int length = 2 * (int)(Math.floor(Math.log(this.size) / Math.log(2))) + 1; // Large size just in case
+    	HeapNode[] cups = new HeapNode[length];
+    	HeapNode curr = this.firstRoot;
+    	// Iterate over roots from first to last and either insert
+    	// to empty cell or link with root in cell and move up
+    	curr.getPrev().setNext(null);
+    	while (curr != null) {
+    		HeapNode temp = curr;
+    		curr = curr.getNext();
+    		while (cups[temp.getRank()] != null) {
+    			temp = this.link(temp, cups[temp.getRank()]);
+    			cups[temp.getRank()-1] = null;
+    		}
+    		cups[temp.getRank()] = temp;
+    	}
+    	HeapNode first = null, last = null; // Chain the consolidated roots in increasing order of ranks
+    	this.minimalRoot = null;
+    	this.treeCount = 0;
+    	for (int i = 0; i < length; i++) {
+    		HeapNode root = cups[i];
+    		if (root == null) {
+    			continue;
+    		}
+    		if (first == null) {
+    			first = root;
+    		}
+    		else {
+    			last.setNext(root);
+    			root.setPrev(last);
+    		}
+    		last = root;
+    		if (this.minimalRoot == null || this.minimalRoot.getKey() > root.getKey()) {
+    			this.minimalRoot = root;
+    		}
+    		this.treeCount++;
+    	}
+    	last.setNext(first);
+    	first.setPrev(last);
+    	this.firstRoot = first;
+    }
+
+    /*
+     * Helper function for deleteMin().
+     * The function resets the heap to be an empty one, fixing relevant fields.
+     * Complexity O(1).
+     */
+    private void clear() {
+    	this.size = 0;
+    	this.markedCount = 0;
+    	this.treeCount = 0;
+    	this.minimalRoot = null;
+    	this.firstRoot = null;
+    }
+
+    /**
+    * public void deleteMin()
+    *
+    * The function deletes the node containing the minimum key.
+    * A.C. Complexity O(logn).
+    * W.C. Complexity O(n).
+    */
+    public void deleteMin()
+    {
+    	if (this.isEmpty()) { // Heap is empty
+    		return;
+    	}
+    	if (this.size == 1) { // Heap will become empty
+    		this.clear();
+    		return;
+    	}
+    	HeapNode min = this.minimalRoot;
+    	HeapNode nextNode = min.getNext();
+    	HeapNode prevNode = min.getPrev();
+    	HeapNode firstChild = min.getChild();
+    	this.size--;
+    	this.treeCount--;
+    	if (firstChild != null) { // Since children are now roots - unmark all of them.
+    		HeapNode child = firstChild;
+    		do {
+    			child.setParent(null);
+    			if (child.getMarked()) {
+    				child.unmark();
+    				this.markedCount--;
+    			}
+    			this.treeCount++;
+    			child = child.getNext();
+    		} while (child != firstChild);
+    		min.setChild(null);
+    	}
+    	if (nextNode == min) { // Minimal has no siblings, has children
+    		this.firstRoot = firstChild;
+    	}
+    	else if (firstChild == null) { // Minimal has no children, has siblings
+    		prevNode.setNext(nextNode);
+    		nextNode.setPrev(prevNode);
+    		if (this.firstRoot == min) { // Minimal was first
+    			this.firstRoot = nextNode;
+    		}
+    	}
+    	else { // Minimal has children and siblings - put the children in its place
+    		HeapNode lastChild = firstChild.getPrev();
+    		prevNode.setNext(firstChild);
+    		firstChild.setPrev(prevNode);
+    		nextNode.setPrev(lastChild);
+    		lastChild.setNext(nextNode);
+    		if (this.firstRoot == min) { // Minimal was first
+    			this.firstRoot = firstChild;
+    		}
+    	}
+    	min.setNext(null);
+    	min.setPrev(null);
+    	consolidate();
+    }
+
+   /**
+    * public HeapNode findMin()
+    *
+    * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+    * Complexity O(1).
+    */
+    public HeapNode findMin()
+    {
+    	return this.minimalRoot;
+    }
+
+    /**
+    * public void meld (DoubleFibonacciHeap heap2)
+    *
+    * Melds heap2 with the current heap.
+    * Complexity O(1)
+    */
+    public void meld(DoubleFibonacciHeap heap2)
+    {
+    	if (!heap2.isEmpty()) { // Melding current heap with a non-empty heap.
+    		if (this.isEmpty()) { // Current heap is empty - make heap2 the current heap.
+    			this.firstRoot = heap2.firstRoot;
+    			this.minimalRoot = heap2.minimalRoot;
+    		}
+    		else { // Current heap is NOT empty - add heap2 at the end of current heap - "most right heap".
+    			HeapNode lastRoot = this.firstRoot.getPrev();
+    			HeapNode newLastRoot = heap2.firstRoot.getPrev();
+    			this.firstRoot.setPrev(newLastRoot);
+    			newLastRoot.setNext(this.firstRoot);
+    			lastRoot.setNext(heap2.firstRoot);
+    			heap2.firstRoot.setPrev(lastRoot);
+    			if (this.minimalRoot.getKey() > heap2.minimalRoot.getKey()) { // Check if minimal node update is required.
+    				this.minimalRoot = heap2.minimalRoot;
+    			}
+    		}
+    		this.size = this.size + heap2.size;
+    		this.treeCount = this.treeCount + heap2.treeCount;
+    		this.markedCount = this.markedCount + heap2.markedCount; // Fix heap fields
+    	}
+    }
+
+   /**
+    * public int size()
+    *
+    * The function returns the number of elements in the heap.
+    * Complexity O(1).
+    */
+    public int size()
+    {
+    	return this.size;
+    }
+
+    /**
+    * public int[] countersRep()
+    *
+    * The function returns an array of counters. The i-th entry contains the number of trees of order i in the heap.
+    * An empty heap returns an empty array.
+    * Complexity O(n).
+    */
+    public int[] countersRep()
+    {
+    	if (this.isEmpty()) { // Heap is empty - return an empty array.
+    		return new int[] {};
+    	}
+    	int length = 3 * (int)Math.floor(Math.log(this.size) / Math.log(2)) + 1; // Large size just in case
+    	int[] temp = new int[length];
+    	int maxRank = 0;
+    	HeapNode root = this.firstRoot;
+    	for (int i = 0; i < this.treeCount; i++) { // Count occurrences of ranks of all the trees
+    		temp[root.getRank()]++;
+    		maxRank = Math.max(maxRank, root.getRank());
+    		root = root.getNext();
+    	}
+    	int[] res = new int[maxRank + 1];
+    	System.arraycopy(temp, 0, res, 0, res.length);
+    	return res;
+    }
+
+   /**
+    * public void delete(HeapNode x)
+    *
+    * Deletes the node x from the heap.
+    * It is assumed that x indeed belongs to the heap.
+    * A.C. Complexity O(logn).
+    * W.C. Complexity O(n).
+    */
+    public void delete(HeapNode x)
+    {
+    	if (x.getParent() != null) { // Make sure the node becomes a root
+    		cascadingCut(x);
+    	}
+    	this.minimalRoot = x; // Set the node to be the minimal root so it would be deleted.
+    	this.deleteMin();
+    }
+
+    /*
+     *  Helper function for cascadingCut().
+     *  The function receives a non-root node.
+     *  The function cuts the node from its parent and adds it as a root.
+     *  Complexity O(1).
+     */
+    private void cut(HeapNode node) {
+    	HeapNode parent = node.getParent();
+    	node.setParent(null);
+    	if (node.getMarked()) {
+    		node.unmark();
+    		this.markedCount--;
+    	}
+    	parent.setRank(parent.getRank()-1);
+    	if (node.getNext() == node) { // If node is an only child
+    		parent.setChild(null);
+    	}
+    	else {
+    		if (parent.getChild() == node) { // If node is the first child and isn't single
+    			parent.setChild(node.getNext());
+    		}
+    		node.getNext().setPrev(node.getPrev());
+    		node.getPrev().setNext(node.getNext());
+    	}
+    	this.firstRoot.getPrev().setNext(node); // Fixing siblings of the node
+    	node.setPrev(this.firstRoot.getPrev());
+    	this.firstRoot.setPrev(node);
+    	node.setNext(this.firstRoot);
+    	this.firstRoot = node;
+    	if (this.minimalRoot.getKey() > node.getKey()) { // Validating minimalRoot
+    		this.minimalRoot = node;
+    	}
+    	DoubleFibonacciHeap.totalCuts++;
+    	this.treeCount++;
+    }
+
+    /*
+     *  Helper function for decreaseKey()
+     *  The function receives a node and begins the cascading cut process.
+     *  A.C. Complexity O(1).
+     *  W.C. Complexity O(logn).
+     */
+    private void cascadingCut(HeapNode node) {
+    	HeapNode parent = node.getParent();
+    	cut(node);
+    	if (parent.getParent() != null) { // Check if parent isn't a root
+    		if (!parent.getMarked()) { // If the parent isn't marked
+    			parent.mark();
+    			this.markedCount++;
+    		}
+    		else { // If the parent is marked
+    			cascadingCut(parent);
+    		}
+    	}
+    }
+
+    /**
+    * public void decreaseKey(HeapNode x, double delta)
+    *
+    * Decreases the key of the node x by a non-negative value delta, applying cascading cuts if needed.
+    * Throws IllegalArgumentException if the decreased key would be NaN (a NaN delta, or an infinite key and delta).
+    * A.C. complexity O(1).
+    * W.C. complexity O(logn).
+    */
+    public void decreaseKey(HeapNode x, double delta)
+    {
+    	if (Double.isNaN(x.getKey() - delta)) { // NaN is not ordered, it would break the heap order
+    		throw new IllegalArgumentException("the decreased key must not be NaN");
+    	}
+    	x.setKey(x.getKey() - delta); // Decrease the node's key
+    	if (x.getKey() < this.minimalRoot.getKey()) { // Set up a new minimal root if needed
+    		this.minimalRoot = x;
+    	}
+    	if (x.getParent() == null) { // x was a root and no cascading cut is required
+    		return;
+    	}
+    	if (x.getKey() < x.getParent().getKey()) { // Cascade if necessary
+    		cascadingCut(x);
+    	}
+    }
+
+   /**
+    * public int potential()
+    *
+    * This function returns the current potential of the heap, which is:
+    * Potential = #trees + 2*#marked
+    * Complexity O(1).
+    */
+    public int potential()
+    {
+    	return this.treeCount + 2 * this.markedCount;
+    }
+
+   /**
+    * public static int totalLinks()
+    *
+    * This static function returns the total number of link operations made during the
+    * run-time of the program over heaps of this class.
+    * Complexity O(1).
+    */
+    public static int totalLinks()
+    {
+    	return totalLinks;
+    }
+
+   /**
+    * public static int totalCuts()
+    *
+    * This static function returns the total number of cut operations made during the
+    * run-time of the program over heaps of this class.
+    * Complexity O(1).
+    */
+    public static int totalCuts()
+    {
+    	return totalCuts;
+    }
+
+    /**
+    * public static double[] kMin(DoubleFibonacciHeap H, int k)
+    *
+    * This static function returns the k smallest keys in a Fibonacci heap that contains a single tree.
+    * H is not changed.
+    * Complexity O(k*deg(h)).
+    */
+    public static double[] kMin(DoubleFibonacciHeap H, int k)
+    {
+    	if (H.isEmpty()) {
+    		return new double[0];
+    	}
+    	DoubleFibonacciHeap helperHeap = new DoubleFibonacciHeap(); // Init. a helper heap
+    	double[] arr = new double[k];
+    	// Insert minimal root to helper heap, record its child in H
+    	helperHeap.insertHelper(H.minimalRoot.getKey(), H.minimalRoot.getChild());
+    	for (int i = 0; i < k; i++) { // Delete k minimums from the helper heap, inserting its children in its place
+    		arr[i] = helperHeap.minimalRoot.getKey();
+    		HeapNode child = helperHeap.minimalRoot.getSpecialChild();
+    		if (child != null) { // Minimal root had children in original heap
+    			HeapNode first = child;
+    			do {
+    				helperHeap.insertHelper(child.getKey(), child.getChild());
+    				child = child.getNext();
+    			} while (child != first); // Insert all of minimal root's children to helper heap
+    		}
+    		helperHeap.deleteMin();
+    	}
+    	return arr;
+    }
+
+   /**
+    * public class HeapNode
+    *
+    * A node of a DoubleFibonacciHeap, holding a double key.
+    */
+    public static class HeapNode{
+
+    	public double key;
+    	private boolean mark;
+    	private int rank;
+    	private HeapNode parent, prev, next, child, specialChild;
+
+    	/*
+    	 * Constructor for HeapNode.
+    	 * The function receives a key and sets the respective fields.
+    	 * Complexity O(1).
+    	 */
+    	public HeapNode(double key) {
+    		this.key = key;
+    	}
+
+    	public double getKey() { // Returns the key of the node. Complexity O(1).
+    		return this.key;
+    	}
+
+    	public void setKey(double k) { // Sets the key of the node. Complexity O(1).
+    		this.key = k;
+    	}
+
+
+    	public boolean getMarked() { // Returns the mark of the node. Complexity O(1).
+    		return this.mark;
+    	}
+
+    	public void mark() { // Marks the node. Complexity O(1).
+    		this.mark = true;
+    	}
+
+    	public void unmark() { // Unmarks the node. Complexity O(1).
+    		this.mark = false;
+    	}
+
+    	public int getRank() { // Returns the number of children this node has. Complexity O(1).
+    		return this.rank;
+    	}
+
+    	public void setRank(int r) { // Sets the number of children this node has. Complexity O(1).
+    		this.rank = r;
+    	}
+
+    	public HeapNode getParent() { // Returns the parent node of this node. Complexity O(1).
+    		return this.parent;
+    	}
+
+    	public void setParent(HeapNode p) { // Sets the parent node of this node. Complexity O(1).
+    		this.parent = p;
+    	}
+
+    	public HeapNode getPrev() { // Returns the left brother of this node. Complexity O(1).
+    		return this.prev;
+    	}
+
+    	public void setPrev(HeapNode p) { // Sets the left brother of this node. Complexity O(1).
+    		this.prev = p;
+    	}
+
+    	public HeapNode getNext() { // Returns the right brother of this node. Complexity O(1).
+    		return this.next;
+    	}
+
+    	public void setNext(HeapNode n) { // Sets the right brother of this node. Complexity O(1).
+    		this.next = n;
+    	}
+
+    	public HeapNode getChild() { // Returns the leftmost child of this node. Complexity O(1).
+    		return this.child;
+    	}
+
+    	public void setChild(HeapNode c) { // Sets the leftmost child of this node. Complexity O(1).
+    		this.child = c;
+    	}
+
+    	private HeapNode getSpecialChild() { // Returns the specialChild field of the node. Used only in kMin(). Complexity O(1).
+    		return this.specialChild;
+    	}
+
+    	private void setSpecialChild(HeapNode c) { // Sets the specialChild field of the node. Used only in kMin(). Complexity O(1).
+    		this.specialChild = c;
+    	}
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
 /**
  * FibonacciHeap
  *
@@ -8,6 +11,16 @@ public class FibonacciHeap
 	private HeapNode minimalRoot, firstRoot;
 	private int size, markedCount, treeCount;
 	private static int totalCuts, totalLinks;
+	// A tree of rank k holds at least Fib(k+2) nodes, so in a heap of at most Integer.MAX_VALUE nodes ranks never exceed 44.
+	private static final int RANK_BOUND = 45;
+	private final int[] rankCounts = new int[RANK_BOUND]; // rankCounts[i] is the number of trees of rank i in the heap.
+	private int maxRank; // The maximal rank of a tree in the heap, 0 if the heap is empty.
+	private int rootListThreshold = Integer.MAX_VALUE;
+	private IntConsumer rootListAlert;
+	private int version; // Incremented by every mutating operation, used to detect stale snapshots.
+	private volatile HeapSnapshot published; // The latest snapshot handed out by snapshot(), readable by any thread.
+	private int snapshotCadence, snapshotKMin; // Publish a snapshot every snapshotCadence mutations (0 - never), with kMin of this k.
+	private int mutationsSincePublish;
 	
    /**
     * public boolean isEmpty()
@@ -19,6 +32,42 @@ public class FibonacciHeap
     {
     	return this.size == 0;
     }
+
+    /*
+     * Helper function for the rank histogram.
+     * The function records that a tree of the given rank was added to the root list.
+     * Complexity O(1).
+     */
+    private void addRoot(int rank) {
+    	this.rankCounts[rank]++;
+    	if (rank > this.maxRank) {
+    		this.maxRank = rank;
+    	}
+    }
+
+    /*
+     * Helper function for the rank histogram.
+     * The function records that a tree of the given rank was removed from the root list.
+     * A.C. Complexity O(1) - maxRank only moves down as far as it was previously moved up.
+     */
+    private void removeRoot(int rank) {
+    	this.rankCounts[rank]--;
+    	while (this.maxRank > 0 && this.rankCounts[this.maxRank] == 0) {
+    		this.maxRank--;
+    	}
+    }
+
+    /*
+     * Helper function for insertHelper(), cut() and meld().
+     * The function fires the root list alert if the number of trees just grew past the threshold.
+     * Complexity O(1).
+     */
+    private void checkRootListAlert(int previousTreeCount) {
+    	if (this.rootListAlert != null && previousTreeCount <= this.rootListThreshold
+    			&& this.treeCount > this.rootListThreshold) {
+    		this.rootListAlert.accept(this.treeCount);
+    	}
+    }
 		
     /* Helper function for insert().
      * The function creates a node with the given key and given special child.
@@ -29,6 +78,15 @@ public class FibonacciHeap
     private HeapNode insertHelper(int key, HeapNode specialChild) {
     	HeapNode node = new HeapNode(key);
     	node.setSpecialChild(specialChild);
+    	this.insertNode(node);
+    	return node;
+    }
+
+    /* Helper function for insertHelper() and ConcurrentInsertFibonacciHeap.
+     * The function receives a newly created node which doesn't belong to any heap, and inserts it into the heap.
+     * Complexity O(1).
+     */
+    void insertNode(HeapNode node) {
     	if (this.isEmpty()) { // Inserting node to an empty heap.
     		this.firstRoot = node;
     		this.minimalRoot = node;
@@ -48,7 +106,9 @@ public class FibonacciHeap
     	}	
     	this.size++;
     	this.treeCount++;
-    	return node;	
+    	this.addRoot(0);
+    	this.checkRootListAlert(this.treeCount - 1);
+    	this.mutated();
     }
     
     /**
@@ -86,7 +146,10 @@ public class FibonacciHeap
 		}
 		root2.setParent(root1); // Fixing pointers of root and its new child
 		root1.setChild(root2);
+		this.rankCounts[root2.getRank()]--; // Both roots leave the histogram, root1 returns with a higher rank
+		this.rankCounts[root1.getRank()]--;
 		root1.setRank(root1.getRank()+1);
+		this.addRoot(root1.getRank());
 		this.treeCount--;
 		return root1;
     }
@@ -174,6 +237,8 @@ public class FibonacciHeap
 		this.treeCount = 0;
 		this.minimalRoot = null;
 		this.firstRoot = null;
+		Arrays.fill(this.rankCounts, 0, this.maxRank + 1, 0);
+		this.maxRank = 0;
     }
     
     /**
@@ -190,6 +255,7 @@ public class FibonacciHeap
     	}
     	if (this.size == 1) { // Heap will become empty 
     		this.clear();
+    		this.mutated();
     		return;
     	}
     	HeapNode nextNode = this.minimalRoot.getNext();
@@ -202,6 +268,7 @@ public class FibonacciHeap
     		this.minimalRoot.setChild(null);
     		do {
     			firstChild.setParent(null);
+    			this.addRoot(firstChild.getRank());
     			if (firstChild.getMarked()) {
     				firstChild.unmark();
     				this.markedCount--;
@@ -230,6 +297,7 @@ public class FibonacciHeap
     		}
     		do {
     			firstChild.setParent(null);
+    			this.addRoot(firstChild.getRank());
     			if (firstChild.getMarked()) {
     				firstChild.unmark();
     				this.markedCount--;
@@ -241,7 +309,9 @@ public class FibonacciHeap
     		nextNode.setPrev(lastChild);
     		lastChild.setNext(nextNode);
     	}
+    	this.removeRoot(this.minimalRoot.getRank());
     	consolidate();     	
+    	this.mutated();
     }
 
    /**
@@ -259,11 +329,12 @@ public class FibonacciHeap
     * public void meld (FibonacciHeap heap2)
     *
     * Melds heap2 with the current heap.
-    * Complexity O(1)
+    * Complexity O(1) - merging the rank histograms takes at most RANK_BOUND steps.
     */
     public void meld(FibonacciHeap heap2) // Complexity O(1).
     {
     	if (!heap2.isEmpty()) { // Melding current heap with a non-empty heap.
+    		int previousTreeCount = this.treeCount;
     		if (this.isEmpty()) { // Current heap is empty - make heap2 the current heap.
     			this.firstRoot = heap2.firstRoot;
     			this.minimalRoot = heap2.minimalRoot;
@@ -275,13 +346,19 @@ public class FibonacciHeap
     			newLastRoot.setNext(this.firstRoot); // These two lines insert the last tree of heap2 to current heap.
     			lastRoot.setNext(heap2.firstRoot);
     			heap2.firstRoot.setPrev(lastRoot); // These two lines insert the first tree of heap2 to current heap.
-    			if (this.minimalRoot.getKey() < heap2.minimalRoot.getKey()) { // Check if minimal node update is required.
+    			if (this.minimalRoot.getKey() > heap2.minimalRoot.getKey()) { // Check if minimal node update is required.
     				this.minimalRoot = heap2.minimalRoot;
     			}
     		}
     		this.size = this.size + heap2.size;
     		this.treeCount = this.treeCount + heap2.treeCount;
     		this.markedCount = this.markedCount + heap2.markedCount; // Fix heap fields
+    		for (int i = 0; i <= heap2.maxRank; i++) { // Merge the rank histograms
+    			this.rankCounts[i] += heap2.rankCounts[i];
+    		}
+    		this.maxRank = Math.max(this.maxRank, heap2.maxRank);
+    		this.checkRootListAlert(previousTreeCount);
+    		this.mutated();
     	}
     }
 
@@ -301,32 +378,74 @@ public class FibonacciHeap
     *
     * The function returns an array of counters. The i-th entry contains the number of trees of order i in the heap.
     * Note: The size of of the array depends on the maximum order of a tree, and an empty heap returns an empty array.
-    * Complexity O(n). 
+    * The counters are maintained incrementally, so this only copies them into a new array.
+    * Complexity O(logn). 
     */
-    public int[] countersRep() // Complexity O(n).
+    public int[] countersRep() // Complexity O(logn).
     {
     	if (this.isEmpty()) { // Heap is empty - return an empty array.
     		return new int[] {};
-    	} // Else...:
-    	int length = 3 * (int)Math.floor(Math.log(this.size) / Math.log(2)) + 1; // Large size just in case
-    	int[] temp = new int[length];
-    	HeapNode root = this.firstRoot;
-    	for (int i = 0; i < this.treeCount; i++) { // Count occurrences of ranks of all the trees
-    		temp[root.getRank()]++;
-    		root = root.getNext();
-    	}
-    	int actualLength = 0;
-    	for (int i = temp.length-1; i > -1; i--) { // Start from last index and go down
-    		if (temp[i] > 0) { // Need to find the first index, starting from the end of the list, which is not 0.
-    			actualLength = i + 1;
-    			break;
-    		}
     	}
-    	int[] res = new int[actualLength]; // Initialize a new array with a proper size.
-    	for (int i = 0; i < res.length; i++) { // Copy the counts from temp.
-    		res[i] = temp[i];
-    	}
-    	return res;
+    	return Arrays.copyOf(this.rankCounts, this.maxRank + 1);
+    }
+
+   /**
+    * public int countersRep(int rank)
+    *
+    * Returns the number of trees of the given rank in the heap, without copying the counters.
+    * Complexity O(1).
+    */
+    public int countersRep(int rank)
+    {
+    	return rank >= 0 && rank < RANK_BOUND ? this.rankCounts[rank] : 0;
+    }
+
+   /**
+    * public int maxRank()
+    *
+    * Returns the maximal rank of a tree in the heap, or -1 if the heap is empty.
+    * Complexity O(1).
+    */
+    public int maxRank()
+    {
+    	return this.isEmpty() ? -1 : this.maxRank;
+    }
+
+   /**
+    * public int treeCount()
+    *
+    * Returns the number of trees in the heap, AKA the length of the root list.
+    * Complexity O(1).
+    */
+    public int treeCount()
+    {
+    	return this.treeCount;
+    }
+
+   /**
+    * public int markedCount()
+    *
+    * Returns the number of marked nodes in the heap.
+    * Complexity O(1).
+    */
+    public int markedCount()
+    {
+    	return this.markedCount;
+    }
+
+   /**
+    * public void setRootListAlert(int threshold, IntConsumer alert)
+    *
+    * Registers an alert which is called with the current number of trees whenever the root list
+    * grows past the given threshold (once per crossing, not on every insertion above it).
+    * The alert runs inside the mutating operation and must not modify the heap.
+    * Passing a null alert removes the current one.
+    * Complexity O(1).
+    */
+    public void setRootListAlert(int threshold, IntConsumer alert)
+    {
+    	this.rootListThreshold = threshold;
+    	this.rootListAlert = alert;
     }
 	
    /**
@@ -361,6 +480,10 @@ public class FibonacciHeap
     		this.markedCount--;
     	}
     	parent.setRank(parent.getRank()-1);
+    	if (parent.getParent() == null) { // parent is a root - its tree moves down one rank in the histogram
+    		this.addRoot(parent.getRank());
+    		this.removeRoot(parent.getRank()+1);
+    	}
     	if (node.getNext().getKey() == node.getKey()) { // If node is an only child
     		parent.setChild(null);
     	}
@@ -381,6 +504,8 @@ public class FibonacciHeap
     	}
     	FibonacciHeap.totalCuts++;
     	this.treeCount++;
+    	this.addRoot(node.getRank());
+    	this.checkRootListAlert(this.treeCount - 1);
     }
     
     /*
@@ -418,11 +543,13 @@ public class FibonacciHeap
     		this.minimalRoot = x;
     	}
     	if (x.getParent() == null) { // x was a root and no cascading cut is required - end function run
+    		this.mutated();
     		return;
     	}
     	if (x.getKey() < x.getParent().getKey()) { // Cascade if necessary
     		cascadingCut(x);
     	}
+    	this.mutated();
     }
 
    /**
@@ -500,6 +627,140 @@ public class FibonacciHeap
     	return arr;
     }
     
+    /*
+     * Helper function for every mutating operation, called once the heap is valid again.
+     * The function advances the heap version and publishes a new snapshot if the snapshot cadence was reached.
+     * Complexity O(1), or the complexity of snapshot() when a snapshot is published.
+     */
+    private void mutated() {
+    	this.version++;
+    	if (this.snapshotCadence > 0 && ++this.mutationsSincePublish >= this.snapshotCadence) {
+    		this.snapshot();
+    	}
+    }
+
+   /**
+    * public void setSnapshotPolicy(int cadence, int k)
+    *
+    * Makes the heap publish a snapshot by itself after every cadence mutations, so that
+    * publishedSnapshot() is at most cadence mutations behind the heap. With a cadence of 1
+    * readers always see the state after the latest mutation. A cadence of 0 turns automatic publishing off.
+    * Every published snapshot also holds kMin(this, k) - pass 0 to skip it. Note that computing it makes every
+    * publish cost O(k*deg(H)) while the heap consists of a single tree, so with a cadence of 1 every mutation pays it.
+    * Must be called by the thread which mutates the heap.
+    * Complexity O(1).
+    */
+    public void setSnapshotPolicy(int cadence, int k)
+    {
+    	this.snapshotCadence = cadence;
+    	this.snapshotKMin = k;
+    	this.mutationsSincePublish = 0;
+    }
+
+   /**
+    * public HeapSnapshot snapshot()
+    *
+    * Returns an immutable snapshot of the heap's current state (minimal key, size, potential, countersRep
+    * and kMin for the k given to setSnapshotPolicy()), and publishes it for publishedSnapshot().
+    * Must be called by the thread which mutates the heap.
+    * Repeated calls without an intervening mutation or change of k return the same snapshot.
+    * Complexity O(1) if the heap did not change since the last call, otherwise O(logn + k*deg(H)).
+    */
+    public HeapSnapshot snapshot()
+    {
+    	HeapSnapshot current = this.published;
+    	if (current != null && current.version == this.version && current.k == this.snapshotKMin) { // Nothing changed
+    		return current;
+    	}
+    	current = new HeapSnapshot(this);
+    	this.published = current; // Volatile write - makes the snapshot visible to reader threads
+    	this.mutationsSincePublish = 0;
+    	return current;
+    }
+
+   /**
+    * public HeapSnapshot publishedSnapshot()
+    *
+    * Returns the latest published snapshot, or null if none was published yet.
+    * Safe to call from any thread without locking, while the writer keeps mutating the heap.
+    * See setSnapshotPolicy() for how up to date the snapshot is. Snapshots which are no longer
+    * referenced by any reader are reclaimed by the garbage collector.
+    * Complexity O(1).
+    */
+    public HeapSnapshot publishedSnapshot()
+    {
+    	return this.published;
+    }
+
+   /**
+    * public class HeapSnapshot
+    *
+    * An immutable view of a FibonacciHeap at a given version.
+    * All of its fields are final, so it may be shared between threads freely.
+    */
+    public static class HeapSnapshot{
+
+    	private final int version, size, potential, minKey, k;
+    	private final int[] counters, kMin;
+
+    	/*
+    	 * Constructor for HeapSnapshot.
+    	 * The function receives a heap and copies its read-only statistics.
+    	 * kMin is only defined for a heap with a single tree, so it is left null otherwise.
+    	 * Complexity O(logn + k*deg(H)).
+    	 */
+    	private HeapSnapshot(FibonacciHeap heap) {
+    		this.version = heap.version;
+    		this.k = heap.snapshotKMin;
+    		this.size = heap.size;
+    		this.potential = heap.potential();
+    		this.minKey = heap.isEmpty() ? Integer.MAX_VALUE : heap.minimalRoot.getKey();
+    		this.counters = heap.countersRep();
+    		if (heap.snapshotKMin > 0 && heap.treeCount == 1) {
+    			int links = FibonacciHeap.totalLinks; // kMin() links in its helper heap - keep them out of the statistic
+    			this.kMin = FibonacciHeap.kMin(heap, Math.min(heap.snapshotKMin, heap.size));
+    			FibonacciHeap.totalLinks = links;
+    		}
+    		else {
+    			this.kMin = null;
+    		}
+    	}
+
+    	public int getVersion() { // Returns the heap version this snapshot was taken at. Complexity O(1).
+    		return this.version;
+    	}
+
+    	public boolean isEmpty() { // Returns true iff the heap was empty at snapshot time. Complexity O(1).
+    		return this.size == 0;
+    	}
+
+    	public int size() { // Returns the size of the heap at snapshot time. Complexity O(1).
+    		return this.size;
+    	}
+
+    	public int potential() { // Returns the potential of the heap at snapshot time. Complexity O(1).
+    		return this.potential;
+    	}
+
+    	public int getMinKey() { // Returns the minimal key, or Integer.MAX_VALUE if the heap was empty. Complexity O(1).
+    		return this.minKey;
+    	}
+
+    	public int countersRep(int rank) { // Returns the number of trees of the given rank at snapshot time. Complexity O(1).
+    		return rank >= 0 && rank < this.counters.length ? this.counters[rank] : 0;
+    	}
+
+    	public int[] countersRep() { // Returns a copy of the heap's countersRep() at snapshot time. Complexity O(logn).
+    		return this.counters.clone();
+    	}
+
+    	// Returns a copy of kMin(H, k) at snapshot time for the k given to setSnapshotPolicy() (capped at size()),
+    	// or null if no k was set or the heap did not consist of a single tree. Complexity O(k).
+    	public int[] kMin() {
+    		return this.kMin == null ? null : this.kMin.clone();
+    	}
+    }
+
    /**
     * public class HeapNode
     * 
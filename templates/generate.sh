@@ -0,0 +1,50 @@
+#!/bin/sh
+# Generates the primitive FibonacciHeap variants in src/ from PrimitiveFibonacciHeap.java.template.
+# Run from anywhere: templates/generate.sh
+#
+# Placeholders: @HEAP@ class name, @KEY@ key type, @PAYLOAD@ payload type, and a few
+# @..._DOC@/@..._ARG@/@..._PARAM@ fragments which are empty in variants without a payload.
+# Lines prefixed with //#payload are kept only in variants with a payload,
+# lines prefixed with //#double are kept only in variants with double keys.
+
+set -e
+dir=$(cd "$(dirname "$0")" && pwd)
+template="$dir/PrimitiveFibonacciHeap.java.template"
+out="$dir/../src"
+
+# generate <class name> <key type> <payload type, or "none">
+generate() {
+	heap=$1 key=$2 payload=$3
+	if [ "$payload" = none ]; then
+		payload_sed='/^\/\/#payload/d
+s/@PAYLOAD_DOC@//g
+s/@PAYLOAD_DOC_AND@//g
+s/@ZERO_PAYLOAD_DOC@//g
+s/@PAYLOAD_PARAM@//g
+s/@PAYLOAD_ARG@//g
+s/@ZERO_ARG@//g'
+	else
+		payload_sed="s/^\/\/#payload//
+s/@PAYLOAD_DOC@/, with an inline $payload payload in every node/g
+s/@PAYLOAD_DOC_AND@/ and payload/g
+s/@ZERO_PAYLOAD_DOC@/ and a zero payload/g
+s/@PAYLOAD_PARAM@/, $payload payload/g
+s/@PAYLOAD_ARG@/, payload/g
+s/@ZERO_ARG@/, 0/g
+s/@PAYLOAD@/$payload/g"
+	fi
+	if [ "$key" = double ]; then
+		key_sed='s/^\/\/#double//'
+	else
+		key_sed='/^\/\/#double/d'
+	fi
+	sed -e "$payload_sed" -e "$key_sed" -e "s/@HEAP@/$heap/g" -e "s/@KEY@/$key/g" \
+		"$template" > "$out/$heap.java"
+}
+
+generate LongFibonacciHeap long none
+generate LongIntFibonacciHeap long int
+generate LongLongFibonacciHeap long long
+generate DoubleFibonacciHeap double none
+generate DoubleIntFibonacciHeap double int
+generate DoubleLongFibonacciHeap double long